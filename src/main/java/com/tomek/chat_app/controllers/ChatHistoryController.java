@@ -1,5 +1,6 @@
 package com.tomek.chat_app.controllers;
 
+import com.tomek.chat_app.services.PresenceService;
 import com.tomek.chat_app.services.RedisChatService;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.annotation.Controller;
@@ -14,13 +15,16 @@ import java.util.List;
 
 /**
  * Controller that exposes HTTP endpoints for retrieving and deleting
- * chat history stored in Redis Streams for specific chat rooms.
+ * chat history stored in Redis Streams for specific chat rooms,
+ * as well as for retrieving the users present in a room.
  */
 @Slf4j
 @Controller("/chat")
 public class ChatHistoryController {
     @Inject
     RedisChatService redisChatService;
+    @Inject
+    PresenceService presenceService;
 
     /**
      * Retrieves the chat history for a specified room.
@@ -47,6 +51,24 @@ public class ChatHistoryController {
                 .toList();
     }
 
+    /**
+     * Retrieves the users currently present in a specified room.
+     * <p>
+     * The list is served from the locally cached view of the
+     * room's presence set, so no Redis round trip is needed.
+     * Changes after this snapshot are delivered over WebSocket
+     * as <code>presence</code> delta events.
+     * </p>
+     *
+     * @param roomId the identifier of the chat room
+     * @return an alphabetically ordered list of usernames present in the room
+     */
+    @Get("/{roomId}/presence")
+    public List<String> getPresence(String roomId) {
+        log.info("Retrieved presence from room: {} ", roomId);
+        return presenceService.getPresence(roomId);
+    }
+
     /**
      * Deletes the chat history for a specified room.
      * <p>
@@ -43,8 +43,8 @@ public class WebSocketController {
      * Called when a new WebSocket session is opened.
      *
      * <p>
-     * Adds the session to the broadcaster, marks the user as active in presence tracking,
-     * and logs the event.
+     * Adds the session to the broadcaster, marks the user as active in presence tracking
+     * (which queues a <code>joined</code> presence event for the room), and logs the event.
      * </p>
      *
      * @param session the WebSocket session that just connected
@@ -95,8 +95,8 @@ public class WebSocketController {
      * Called when a WebSocket session is closed.
      *
      * <p>
-     * Removes the session from the broadcaster, removes the user from presence tracking,
-     * and logs the disconnection.
+     * Removes the session from the broadcaster, removes the user from presence tracking
+     * (which queues a <code>left</code> presence event for the room), and logs the disconnection.
      * </p>
      *
      * @param session the WebSocket session that disconnected
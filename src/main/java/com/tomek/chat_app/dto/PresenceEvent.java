@@ -0,0 +1,29 @@
+package com.tomek.chat_app.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.micronaut.serde.annotation.Serdeable;
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object representing a presence delta broadcast to a chat room.
+ * <p>
+ * An event groups all presence changes of a single flush:
+ * <ul>
+ *     <li>Users who joined the room</li>
+ *     <li>Users who disconnected from the room</li>
+ *     <li>Users removed from the room for inactivity</li>
+ * </ul>
+ * Empty lists are omitted from the serialized form.
+ * </p>
+ */
+@Data
+@Serdeable
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class PresenceEvent {
+    private String type = "presence";
+    private List<String> joined = new ArrayList<>();
+    private List<String> left = new ArrayList<>();
+    private List<String> inactive = new ArrayList<>();
+}
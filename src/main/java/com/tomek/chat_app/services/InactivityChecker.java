@@ -19,7 +19,7 @@ import java.util.Set;
  * <ul>
  *     <li><strong>Redis Sorted Sets (ZSET)</strong> — to store user last-active timestamps</li>
  *     <li><strong>Reactor Flux</strong> — to run a non-blocking repeating task</li>
- *     <li><strong>WebSocketBroadcastService</strong> — to notify other users in the room</li>
+ *     <li><strong>PresenceService</strong> — to notify other users in the room</li>
  * </ul>
  * </p>
  *
@@ -40,14 +40,17 @@ public class InactivityChecker {
 
     private final RedisCommands<String, String> redis;
     private final WebSocketBroadcastService broadcaster;
+    private final PresenceService presenceService;
     private final int thresholdSeconds;
     private final int checkIntervalSeconds;
 
     public InactivityChecker(RedisChatService redisChatService, WebSocketBroadcastService broadcaster,
+                             PresenceService presenceService,
                              @Value("${inactivity.threshold-seconds}") int thresholdSeconds,
                              @Value("${inactivity.check-interval-seconds}") int checkIntervalSeconds) {
         this.redis = redisChatService.getSync();
         this.broadcaster = broadcaster;
+        this.presenceService = presenceService;
         this.thresholdSeconds = thresholdSeconds;
         this.checkIntervalSeconds = checkIntervalSeconds;
     }
@@ -79,12 +82,13 @@ public class InactivityChecker {
      * <ol>
      *     <li>Fetches all active rooms</li>
      *     <li>For each room, loads users with scores below the cutoff time</li>
-     *     <li>Broadcasts an <code>userInactive</code> event via WebSocket</li>
      *     <li>Removes inactive users from Redis for cleanup</li>
+     *     <li>Reports them to {@link PresenceService}, which includes them
+     *     in the next <code>presence</code> delta event</li>
      * </ol>
      * </p>
      */
-    private void checkAllRooms() {
+    void checkAllRooms() {
         Set<String> rooms = broadcaster.getActiveRooms();
         long cutoff = System.currentTimeMillis() - thresholdSeconds * 1000L;
 
@@ -95,12 +99,8 @@ public class InactivityChecker {
                     .forEach(inactiveUser -> {
                         log.debug("User: {} is inactive in room: {}", inactiveUser, roomId);
 
-                        broadcaster.broadcast(roomId,
-                                "{\"type\": \"userInactive\", " +
-                                "\"user\": \"" + inactiveUser + "\" }"
-                        );
-
                         redis.zrem(key, inactiveUser);
+                        presenceService.userInactive(roomId, inactiveUser);
                     });
 
         }
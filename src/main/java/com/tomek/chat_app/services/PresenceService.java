@@ -0,0 +1,214 @@
+package com.tomek.chat_app.services;
+
+import com.tomek.chat_app.dto.PresenceEvent;
+import io.micronaut.context.annotation.Context;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.json.JsonMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.inject.Singleton;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service that keeps a local, in-memory view of the <code>presence:{roomId}</code>
+ * Redis Sorted Sets and publishes presence changes to the room as compact delta events.
+ * <p>
+ * The view is write-through: {@link UserActivityService} and {@link InactivityChecker}
+ * report every change after it has been written to Redis, and the view is never read
+ * back from Redis. Only rooms with open WebSocket sessions are cached, and a room is
+ * evicted once it has no members, no pending changes and no sessions. Rooms without
+ * open sessions are reported as empty, so entries left in Redis by a previous run of
+ * the application are never served as present users.
+ * </p>
+ *
+ * <p>
+ * Presence is tracked per username. A user with several sessions in the same room
+ * is reported as gone only when the last of them closes.
+ * </p>
+ *
+ * <p>
+ * Presence changes are not broadcast immediately. They are buffered per room and
+ * flushed every <code>presence.flush-interval-millis</code> as a single event:
+ * <pre>
+ * {"type":"presence","joined":["a"],"left":["b"],"inactive":["c"]}
+ * </pre>
+ * Empty lists are omitted, and a user who joins and leaves within the same tick
+ * (or vice versa) produces no event at all. Snapshots returned by
+ * {@link #getPresence(String)} reflect the state as of the last flush, so applying
+ * the following delta events to a snapshot always yields the current members.
+ * </p>
+ */
+@Slf4j
+@Singleton
+@Context
+public class PresenceService {
+
+    private enum Change { JOINED, LEFT, INACTIVE }
+
+    /**
+     * Cached members of a single room together with the changes
+     * that have not been broadcast yet. Guarded by its own monitor.
+     */
+    private static class RoomPresence {
+        private final Set<String> members = new HashSet<>();
+        private final Map<String, Change> pending = new LinkedHashMap<>();
+        private boolean evicted;
+    }
+
+    private final WebSocketBroadcastService broadcaster;
+    private final JsonMapper jsonMapper;
+    private final int flushIntervalMillis;
+
+    /**
+     * Mapping from room IDs to their cached presence state.
+     */
+    private final Map<String, RoomPresence> rooms = new ConcurrentHashMap<>();
+
+    public PresenceService(WebSocketBroadcastService broadcaster, JsonMapper jsonMapper,
+                           @Value("${presence.flush-interval-millis}") int flushIntervalMillis) {
+        this.broadcaster = broadcaster;
+        this.jsonMapper = jsonMapper;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    /**
+     * Starts a periodic non-blocking Reactor task that flushes
+     * the buffered presence changes every {@code flushIntervalMillis}.
+     */
+    @PostConstruct
+    public void start() {
+        log.info("Starting PresenceService...");
+        Flux.interval(Duration.ofMillis(flushIntervalMillis))
+                .subscribe(tick -> flushAllRooms());
+    }
+
+    /**
+     * Returns the users present in the given room as of the last flush,
+     * in alphabetical order.
+     * <p>
+     * Rooms without open sessions, and rooms whose first session has not been
+     * recorded yet, are reported as empty.
+     * </p>
+     *
+     * @param roomId the identifier of the chat room
+     * @return a snapshot of the room members
+     */
+    public List<String> getPresence(String roomId) {
+        RoomPresence room = rooms.get(roomId);
+        if (room == null || broadcaster.getSessions(roomId).isEmpty()) return List.of();
+
+        synchronized (room) {
+            Set<String> snapshot = new TreeSet<>(room.members);
+            room.pending.forEach((username, change) -> {
+                if (change == Change.JOINED) snapshot.remove(username);
+                else snapshot.add(username);
+            });
+            return List.copyOf(snapshot);
+        }
+    }
+
+    /**
+     * Records that the user is present in the room. Has no effect if the user
+     * is already part of the cached view or if the room has no open sessions.
+     *
+     * @param roomId   the identifier of the chat room
+     * @param username the user who joined or became active again
+     */
+    public void userJoined(String roomId, String username) {
+        if (broadcaster.getSessions(roomId).isEmpty()) return;
+
+        while (true) {
+            RoomPresence room = rooms.computeIfAbsent(roomId, id -> new RoomPresence());
+            synchronized (room) {
+                if (room.evicted) continue;
+                if (!room.members.add(username)) return;
+                Change previous = room.pending.remove(username);
+                if (previous == null) room.pending.put(username, Change.JOINED);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Records that the user disconnected from the room. Has no effect while
+     * the user still has another session open in the room.
+     *
+     * @param roomId   the identifier of the chat room
+     * @param username the user who left
+     */
+    public void userLeft(String roomId, String username) {
+        if (broadcaster.hasUserSession(roomId, username)) return;
+        removeMember(roomId, username, Change.LEFT);
+    }
+
+    /**
+     * Records that the user was removed from the room by the inactivity sweep.
+     *
+     * @param roomId   the identifier of the chat room
+     * @param username the user who became inactive
+     */
+    public void userInactive(String roomId, String username) {
+        removeMember(roomId, username, Change.INACTIVE);
+    }
+
+    private void removeMember(String roomId, String username, Change change) {
+        RoomPresence room = rooms.get(roomId);
+        if (room == null) return;
+
+        synchronized (room) {
+            if (room.evicted || !room.members.remove(username)) return;
+            Change previous = room.pending.remove(username);
+            if (previous == null) room.pending.put(username, change);
+        }
+    }
+
+    /**
+     * Drains the pending changes of every cached room and broadcasts one delta event
+     * per room that has any. Rooms left without members, changes and sessions are evicted.
+     */
+    void flushAllRooms() {
+        rooms.forEach((roomId, room) -> {
+            Map<String, Change> changes;
+            boolean hasSessions = !broadcaster.getSessions(roomId).isEmpty();
+            synchronized (room) {
+                changes = new LinkedHashMap<>(room.pending);
+                room.pending.clear();
+                if (!hasSessions && room.members.isEmpty()) {
+                    room.evicted = true;
+                    rooms.remove(roomId, room);
+                    log.debug("Evicted presence of room: {}", roomId);
+                }
+            }
+
+            if (changes.isEmpty() || !hasSessions) return;
+
+            log.debug("Broadcasting {} presence changes to room: {}", changes.size(), roomId);
+            try {
+                broadcaster.broadcast(roomId, toJson(changes));
+            } catch (IOException e) {
+                log.error("Failed to serialize presence changes for room: {}", roomId, e);
+            }
+        });
+    }
+
+    private String toJson(Map<String, Change> changes) throws IOException {
+        PresenceEvent event = new PresenceEvent();
+        changes.forEach((username, change) -> {
+            switch (change) {
+                case JOINED -> event.getJoined().add(username);
+                case LEFT -> event.getLeft().add(username);
+                case INACTIVE -> event.getInactive().add(username);
+            }
+        });
+        return jsonMapper.writeValueAsString(event);
+    }
+}
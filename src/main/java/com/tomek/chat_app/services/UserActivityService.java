@@ -15,15 +15,26 @@ import lombok.extern.slf4j.Slf4j;
  * Users are stored as members of the sorted set, and the score represents
  * the timestamp of their last recorded activity (in milliseconds).
  * </p>
+ *
+ * <p>
+ * Every change is forwarded to {@link PresenceService} once it has been
+ * written to Redis, so the local view of the room never reports a change
+ * that Redis rejected.
+ * </p>
  */
 @Slf4j
 @Singleton
 public class UserActivityService {
 
     private final RedisCommands<String, String> redis;
+    private final WebSocketBroadcastService broadcaster;
+    private final PresenceService presenceService;
 
-    public UserActivityService(RedisChatService redisChatService) {
+    public UserActivityService(RedisChatService redisChatService, WebSocketBroadcastService broadcaster,
+                               PresenceService presenceService) {
         this.redis = redisChatService.getSync();
+        this.broadcaster = broadcaster;
+        this.presenceService = presenceService;
     }
 
     /**
@@ -46,6 +57,7 @@ public class UserActivityService {
         String key = "presence:" + roomId;
         long now = System.currentTimeMillis();
         redis.zadd(key, now, username);
+        presenceService.userJoined(roomId, username);
     }
 
     /**
@@ -53,6 +65,7 @@ public class UserActivityService {
      * <p>
      * This is typically done when the WebSocket connection closes or when
      * the user is detected as inactive by the {@link InactivityChecker}.
+     * The user is kept while they still have another session open in the room.
      * </p>
      *
      * <p>
@@ -66,6 +79,8 @@ public class UserActivityService {
      * @param username the username to remove
      */
     public void removeUser(String roomId, String username) {
+        if (broadcaster.hasUserSession(roomId, username)) return;
         redis.zrem("presence:" + roomId, username);
+        presenceService.userLeft(roomId, username);
     }
 }
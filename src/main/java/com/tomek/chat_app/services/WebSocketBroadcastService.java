@@ -74,6 +74,21 @@ public class WebSocketBroadcastService {
         }
     }
 
+    /**
+     * Checks whether the specified room has a session opened by the given user.
+     * Sessions without a <code>username</code> parameter belong to <code>anonymous</code>.
+     *
+     * @param roomId   the identifier of the chat room
+     * @param username the username to look for
+     * @return {@code true} if at least one session in the room belongs to the user
+     */
+    public boolean hasUserSession(String roomId, String username) {
+        return getSessions(roomId).stream()
+                .anyMatch(session -> username.equals(session.getRequestParameters()
+                        .getFirst("username")
+                        .orElse("anonymous")));
+    }
+
     /**
      * Returns the set of currently active room IDs.
      *
@@ -1,8 +1,13 @@
 package com.tomek.chat_app.controllers;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 import com.tomek.chat_app.dto.Message;
+import com.tomek.chat_app.services.PresenceService;
 import com.tomek.chat_app.services.RedisChatService;
+import com.tomek.chat_app.services.WebSocketBroadcastService;
+import io.micronaut.serde.ObjectMapper;
+import io.micronaut.websocket.WebSocketSession;
 import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
 import java.util.List;
@@ -39,4 +44,21 @@ class ChatHistoryControllerTest {
         assertThat(result.get(0)).contains("[").contains("user1:").contains("message1");
         assertThat(result.get(1)).contains("[").contains("user2:").contains("message2");
     }
+
+    @Test
+    void presenceTest() {
+        WebSocketBroadcastService broadcaster = new WebSocketBroadcastService();
+        broadcaster.addSession("room1", mock(WebSocketSession.class));
+        PresenceService presenceService = new PresenceService(broadcaster, ObjectMapper.getDefault(), 500);
+        presenceService.userJoined("room1", "user2");
+        presenceService.userJoined("room1", "user1");
+        presenceService.flushAllRooms();
+
+        ChatHistoryController controller = new ChatHistoryController();
+        controller.presenceService = presenceService;
+
+        List<String> result = controller.getPresence("room1");
+
+        assertThat(result).containsExactly("user1", "user2");
+    }
 }
\ No newline at end of file
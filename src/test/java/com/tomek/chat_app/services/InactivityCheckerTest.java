@@ -0,0 +1,51 @@
+package com.tomek.chat_app.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import com.tomek.chat_app.dto.PresenceEvent;
+import io.lettuce.core.Range;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.micronaut.serde.ObjectMapper;
+import io.micronaut.websocket.WebSocketSession;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import java.util.List;
+
+class InactivityCheckerTest {
+    @Test
+    @SuppressWarnings("unchecked")
+    void inactiveUsersAreReportedToRoomTest() throws Exception {
+        RedisCommands<String, String> redis = mock(RedisCommands.class);
+        when(redis.zrangebyscore(eq("presence:room1"), any(Range.class))).thenReturn(List.of("user1"));
+        RedisChatService redisChatService = mock(RedisChatService.class);
+        when(redisChatService.getSync()).thenReturn(redis);
+
+        WebSocketSession observer = PresenceServiceTest.session("observer");
+        WebSocketBroadcastService broadcaster = new WebSocketBroadcastService();
+        broadcaster.addSession("room1", observer);
+
+        ObjectMapper objectMapper = ObjectMapper.getDefault();
+        PresenceService presenceService = new PresenceService(broadcaster, objectMapper, 500);
+        presenceService.userJoined("room1", "user1");
+        presenceService.userJoined("room1", "observer");
+        presenceService.flushAllRooms();
+
+        InactivityChecker checker = new InactivityChecker(redisChatService, broadcaster, presenceService, 10, 5);
+        checker.checkAllRooms();
+        presenceService.flushAllRooms();
+
+        verify(redis).zrem("presence:room1", "user1");
+        assertThat(presenceService.getPresence("room1")).containsExactly("observer");
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(observer, times(2)).sendSync(captor.capture());
+        String event = (String) captor.getAllValues().get(1);
+        assertThat(objectMapper.readValue(event, PresenceEvent.class).getInactive())
+                .containsExactly("user1");
+    }
+}
@@ -0,0 +1,167 @@
+package com.tomek.chat_app.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import com.tomek.chat_app.dto.PresenceEvent;
+import io.micronaut.http.HttpParameters;
+import io.micronaut.serde.ObjectMapper;
+import io.micronaut.websocket.WebSocketSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+class PresenceServiceTest {
+    private final ObjectMapper objectMapper = ObjectMapper.getDefault();
+    private WebSocketBroadcastService broadcaster;
+    private WebSocketSession observer;
+    private PresenceService presenceService;
+
+    static WebSocketSession session(String username) {
+        HttpParameters parameters = mock(HttpParameters.class);
+        when(parameters.getFirst("username")).thenReturn(Optional.of(username));
+
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.isOpen()).thenReturn(true);
+        when(session.getRequestParameters()).thenReturn(parameters);
+        return session;
+    }
+
+    @BeforeEach
+    void setUp() {
+        observer = session("observer");
+
+        broadcaster = new WebSocketBroadcastService();
+        broadcaster.addSession("room1", observer);
+
+        presenceService = new PresenceService(broadcaster, objectMapper, 500);
+    }
+
+    private List<String> sentEvents() {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(observer, atLeastOnce()).sendSync(captor.capture());
+        List<String> events = new ArrayList<>();
+        captor.getAllValues().forEach(event -> events.add((String) event));
+        return events;
+    }
+
+    private PresenceEvent read(String json) throws IOException {
+        return objectMapper.readValue(json, PresenceEvent.class);
+    }
+
+    @Test
+    void joinedEventOmitsEmptyListsTest() throws IOException {
+        presenceService.userJoined("room1", "user1");
+        presenceService.userJoined("room1", "user2");
+        presenceService.flushAllRooms();
+
+        List<String> events = sentEvents();
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0)).doesNotContain("left").doesNotContain("inactive");
+
+        PresenceEvent event = read(events.get(0));
+        assertThat(event.getType()).isEqualTo("presence");
+        assertThat(event.getJoined()).containsExactly("user1", "user2");
+    }
+
+    @Test
+    void changesAreCoalescedPerTickTest() throws IOException {
+        presenceService.userJoined("room1", "user1");
+        presenceService.userJoined("room1", "user2");
+        presenceService.flushAllRooms();
+
+        presenceService.userJoined("room1", "user3");
+        presenceService.userLeft("room1", "user3");
+        presenceService.userLeft("room1", "user1");
+        presenceService.userInactive("room1", "user2");
+        presenceService.flushAllRooms();
+
+        List<String> events = sentEvents();
+        assertThat(events).hasSize(2);
+        assertThat(events.get(1)).doesNotContain("joined");
+
+        PresenceEvent event = read(events.get(1));
+        assertThat(event.getLeft()).containsExactly("user1");
+        assertThat(event.getInactive()).containsExactly("user2");
+    }
+
+    @Test
+    void joinThenLeaveWithinTickSendsNothingTest() {
+        presenceService.userJoined("room1", "user1");
+        presenceService.userLeft("room1", "user1");
+        presenceService.flushAllRooms();
+
+        verify(observer, never()).sendSync(any());
+    }
+
+    @Test
+    void specialCharactersInUsernamesRoundTripTest() throws IOException {
+        presenceService.userJoined("room1", "a\"b\\c");
+        presenceService.flushAllRooms();
+
+        assertThat(read(sentEvents().get(0)).getJoined()).containsExactly("a\"b\\c");
+    }
+
+    @Test
+    void userWithAnotherSessionDoesNotLeaveTest() {
+        WebSocketSession first = session("user1");
+        WebSocketSession second = session("user1");
+        broadcaster.addSession("room1", first);
+        broadcaster.addSession("room1", second);
+        presenceService.userJoined("room1", "user1");
+        presenceService.flushAllRooms();
+
+        broadcaster.removeSession("room1", first);
+        presenceService.userLeft("room1", "user1");
+        presenceService.flushAllRooms();
+        assertThat(sentEvents()).hasSize(1);
+        assertThat(presenceService.getPresence("room1")).containsExactly("user1");
+
+        broadcaster.removeSession("room1", second);
+        presenceService.userLeft("room1", "user1");
+        presenceService.flushAllRooms();
+        assertThat(sentEvents()).hasSize(2);
+        assertThat(presenceService.getPresence("room1")).isEmpty();
+    }
+
+    @Test
+    void snapshotReflectsLastFlushTest() {
+        presenceService.userJoined("room1", "user2");
+        presenceService.userJoined("room1", "user1");
+        assertThat(presenceService.getPresence("room1")).isEmpty();
+
+        presenceService.flushAllRooms();
+        assertThat(presenceService.getPresence("room1")).containsExactly("user1", "user2");
+
+        presenceService.userLeft("room1", "user1");
+        presenceService.userJoined("room1", "user3");
+        assertThat(presenceService.getPresence("room1")).containsExactly("user1", "user2");
+
+        presenceService.flushAllRooms();
+        assertThat(presenceService.getPresence("room1")).containsExactly("user2", "user3");
+    }
+
+    @Test
+    void roomWithoutSessionsIsEmptyTest() {
+        assertThat(presenceService.getPresence("room2")).isEmpty();
+
+        presenceService.userJoined("room1", "observer");
+        presenceService.flushAllRooms();
+
+        broadcaster.removeSession("room1", observer);
+        presenceService.userLeft("room1", "observer");
+        assertThat(presenceService.getPresence("room1")).isEmpty();
+
+        presenceService.flushAllRooms();
+        presenceService.userJoined("room1", "observer");
+        assertThat(presenceService.getPresence("room1")).isEmpty();
+    }
+}